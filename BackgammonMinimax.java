@@ -1,4 +1,12 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.BooleanSupplier;
 
 public class BackgammonMinimax {
 
@@ -442,22 +450,28 @@ public class BackgammonMinimax {
     // Valores positivos favorecen a BLANCAS; negativos favorecen a NEGRAS.
 
     static class Heuristic {
+        // Pesos de cada componente (elegidos de forma heurística). EvalCache los
+        // incluye en su huella: cambiarlos invalida la caché persistente.
+        static final int WIN = 100000, BAR = 25, BLOT = 2, PRIME = 3, OFF = 5;
+        // Súbelo al cambiar la fórmula de evaluate() o la generación de jugadas.
+        static final int VERSION = 1;
+
         static int evaluate(GameState s, Player pov) {
             // Cortes rápidos si alguien ya ganó (grandes constantes para priorizar mate)
             if (s.off(pov) >= 15)
-                return 100000;
+                return WIN;
             if (s.off(pov.opponent()) >= 15)
-                return -100000;
+                return -WIN;
 
             // Pip score: menos pips = mejor. Se compara contra el rival.
             int myPips = s.pipCount(pov);
             int opPips = s.pipCount(pov.opponent());
             int pipScore = (opPips - myPips); // menos pips = mejor
-            // Otros componentes de la posición (pesos elegidos de forma heurística)
-            int barPenalty = -25 * s.bar(pov) + 25 * s.bar(pov.opponent());
-            int blotScore = -2 * s.blots(pov) + 2 * s.blots(pov.opponent());
-            int primeScore = 3 * s.primes(pov) - 3 * s.primes(pov.opponent());
-            int offScore = 5 * s.off(pov) - 5 * s.off(pov.opponent());
+            // Otros componentes de la posición
+            int barPenalty = -BAR * s.bar(pov) + BAR * s.bar(pov.opponent());
+            int blotScore = -BLOT * s.blots(pov) + BLOT * s.blots(pov.opponent());
+            int primeScore = PRIME * s.primes(pov) - PRIME * s.primes(pov.opponent());
+            int offScore = OFF * s.off(pov) - OFF * s.off(pov.opponent());
             return pipScore + barPenalty + blotScore + primeScore + offScore;
         }
     }
@@ -469,7 +483,10 @@ public class BackgammonMinimax {
     // - Evalúa con la heurística y elige la que maximiza ese "peor caso".
 
     static class MinimaxAI {
+        static final int DEPTH = 2; // mi jugada + respuesta del rival
+
         final Player me;
+        EvalCache cache; // opcional: resultados persistidos entre ejecuciones
 
         MinimaxAI(Player me) {
             this.me = me;
@@ -487,17 +504,32 @@ public class BackgammonMinimax {
         }
 
         MoveSeq choose(GameState s, int[] myDice) {
+            return choose(s, myDice, SearchLimit.NONE);
+        }
+
+        // Igual que choose(s, dados), pero se detiene si se alcanza el límite: devuelve
+        // la mejor jugada entre las evaluadas por completo (o la primera legal si no
+        // dio tiempo a ninguna). Una jugada a medio evaluar no cuenta, porque su "peor
+        // caso" parcial sería demasiado optimista.
+        MoveSeq choose(GameState s, int[] myDice, SearchLimit limit) {
             List<MoveSeq> myMoves = MoveGenerator.generateAll(s, me, normalizeDice(myDice));
             if (myMoves.isEmpty())
                 return new MoveSeq(); // No hay jugadas: se pasa
+            if (cache != null) {
+                MoveSeq cached = cache.lookup(s, me, myDice, myMoves);
+                if (cached != null)
+                    return cached;
+            }
             MoveSeq best = null;
             int bestVal = Integer.MIN_VALUE;
             // Para cada jugada mía, calculo el peor "contraataque" posible del rival
-            for (MoveSeq mseq : myMoves) {
+            search: for (MoveSeq mseq : myMoves) {
                 GameState afterMine = applySeq(s, me, mseq);
                 int worstReply = Integer.MAX_VALUE;
                 // Rival responde con el peor dado posible para mí (conservador/adversarial)
                 for (int[] oppDice : ALL_ROLLS) {
+                    if (limit.reached())
+                        break search;
                     int val = bestReplyValue(afterMine, me.opponent(), oppDice);
                     if (val < worstReply)
                         worstReply = val;
@@ -507,6 +539,11 @@ public class BackgammonMinimax {
                     best = mseq;
                 }
             }
+            if (best == null)
+                return myMoves.get(0);
+            // Sólo se guardan búsquedas completas: una cortada por tiempo no es fiable
+            if (cache != null && !limit.stopped())
+                cache.store(s, me, myDice, bestVal, best);
             return best;
         }
 
@@ -525,6 +562,37 @@ public class BackgammonMinimax {
         }
     }
 
+    // Límite de una búsqueda: plazo (según System.nanoTime) y/o cancelación externa.
+    // stopped() indica si la última búsqueda se cortó antes de terminar.
+    static class SearchLimit {
+        static final SearchLimit NONE = new SearchLimit(0, () -> false);
+
+        private final long deadline;
+        private final BooleanSupplier cancelled;
+        private boolean stopped;
+
+        private SearchLimit(long deadline, BooleanSupplier cancelled) {
+            this.deadline = deadline;
+            this.cancelled = cancelled;
+        }
+
+        static SearchLimit within(long budgetNanos, BooleanSupplier cancelled) {
+            return new SearchLimit(System.nanoTime() + budgetNanos, cancelled);
+        }
+
+        boolean reached() {
+            if (this == NONE)
+                return false;
+            if (!stopped && (cancelled.getAsBoolean() || System.nanoTime() - deadline >= 0))
+                stopped = true;
+            return stopped;
+        }
+
+        boolean stopped() {
+            return stopped;
+        }
+    }
+
     static GameState applySeq(GameState s, Player p, MoveSeq seq) {
         GameState g = s.cloneState();
         for (Move m : seq.steps)
@@ -532,13 +600,502 @@ public class BackgammonMinimax {
         return g;
     }
 
-    // === Utilidades UI ===
-    static Random RNG = new Random();
+    // === Dados ===
+    // Cada partida tiene su propia fuente de dados con semilla explícita:
+    // - Misma semilla => misma secuencia de tiradas (partidas reproducibles).
+    // - Sin estado global: partidas concurrentes no compiten por un único Random.
+
+    static class Dice {
+        final long seed;
+        private final SplittableRandom rng;
 
-    static int[] roll() {
-        return new int[] { RNG.nextInt(6) + 1, RNG.nextInt(6) + 1 };
+        Dice(long seed) {
+            this.seed = seed;
+            this.rng = new SplittableRandom(seed);
+        }
+
+        int[] roll() {
+            return new int[] { rng.nextInt(1, 7), rng.nextInt(1, 7) };
+        }
     }
 
+    // === Caché persistente de búsquedas ===
+    // Guarda (posición, jugador, dados) -> (valor, profundidad, mejor jugada) en un
+    // archivo mapeado en memoria, fuera del heap, con ranuras de tamaño fijo:
+    // - El archivo se mapea la primera vez que se usa; no se parsea nada al arrancar.
+    // - Varios procesos del mismo equipo pueden compartir el archivo (muchas lecturas,
+    //   pocas escrituras). Cada ranura lleva una suma de control, así una escritura a
+    //   medias de otro proceso se lee como "fallo" y no como un resultado erróneo.
+    // - La cabecera y la suma de control incluyen una huella de la configuración
+    //   (pesos y VERSION de Heuristic, profundidad, tiradas). Un archivo existente con
+    //   otra huella u otro tamaño nunca se modifica (otros procesos pueden tenerlo
+    //   mapeado): se usa en su lugar "<archivo>.<huella>-<ranuras>". Los archivos
+    //   viejos se pueden borrar a mano cuando ningún proceso los use.
+    // - La creación y la comprobación de la cabecera se hacen bajo un FileLock
+    //   exclusivo, así dos procesos que arrancan a la vez no se pisan.
+    // - Mapeo directo: cada posición cae en una ranura y la última escritura gana.
+    //
+    // Ranura (32 bytes): key | check | value | depth | nsteps | (2 libres) | move
+    // move empaqueta hasta 4 pasos de 13 bits: from+1 (5) | to+2 (5) | die (3).
+
+    static class EvalCache {
+        static final long MAGIC = 0x4247434143484531L; // "BGCACHE1"
+        static final int HEADER = 64, SLOT = 32;
+        static final int DEFAULT_SLOTS = 1 << 18; // 8 MB
+        static final int MAX_SLOTS = 1 << 25; // un MappedByteBuffer no pasa de 2 GB
+
+        final Path path;
+        final int slots; // potencia de 2
+        final long fingerprint = fingerprint();
+        private volatile MappedByteBuffer buf;
+        private boolean failed;
+
+        EvalCache(Path path, int slots) {
+            if (Integer.bitCount(slots) != 1 || slots > MAX_SLOTS)
+                throw new IllegalArgumentException("slots debe ser potencia de 2 y <= " + MAX_SLOTS + ": " + slots);
+            this.path = path;
+            this.slots = slots;
+        }
+
+        static long fingerprint() {
+            long h = MAGIC;
+            int[] config = { Heuristic.VERSION, Heuristic.WIN, Heuristic.BAR, Heuristic.BLOT, Heuristic.PRIME,
+                    Heuristic.OFF, MinimaxAI.DEPTH, MinimaxAI.ALL_ROLLS.length };
+            for (int v : config)
+                h = mix(h + v);
+            return h;
+        }
+
+        // Devuelve la jugada guardada si es una de las jugadas legales dadas, o null.
+        MoveSeq lookup(GameState s, Player p, int[] dice, List<MoveSeq> legal) {
+            MappedByteBuffer b = mapped();
+            if (b == null)
+                return null;
+            long key = hash(s, p, dice, 0);
+            int at = slotOffset(key);
+            long check = b.getLong(at + 8);
+            int value = b.getInt(at + 16);
+            int depth = b.get(at + 20);
+            int nsteps = b.get(at + 21);
+            long move = b.getLong(at + 24);
+            if (b.getLong(at) != key || depth < MinimaxAI.DEPTH)
+                return null;
+            if (check != checksum(hash(s, p, dice, 1), value, depth, nsteps, move))
+                return null; // otra posición con la misma clave, entrada vieja o escritura a medias
+            for (MoveSeq ms : legal)
+                if (ms.size() == nsteps && encode(ms) == move)
+                    return ms;
+            return null;
+        }
+
+        void store(GameState s, Player p, int[] dice, int value, MoveSeq best) {
+            MappedByteBuffer b = mapped();
+            if (b == null || best.size() > 4)
+                return;
+            long key = hash(s, p, dice, 0);
+            long move = encode(best);
+            int at = slotOffset(key);
+            synchronized (this) {
+                b.putLong(at + 8, 0); // invalida la ranura mientras se reescribe
+                b.putLong(at, key);
+                b.putInt(at + 16, value);
+                b.put(at + 20, (byte) MinimaxAI.DEPTH);
+                b.put(at + 21, (byte) best.size());
+                b.putLong(at + 24, move);
+                b.putLong(at + 8, checksum(hash(s, p, dice, 1), value, MinimaxAI.DEPTH, best.size(), move));
+            }
+        }
+
+        private MappedByteBuffer mapped() {
+            MappedByteBuffer b = buf;
+            if (b != null)
+                return b;
+            synchronized (this) {
+                if (buf == null && !failed) {
+                    try {
+                        buf = map();
+                    } catch (IOException e) {
+                        failed = true;
+                        System.err.println("Caché desactivada (" + path + "): " + e.getMessage());
+                    }
+                }
+                return buf;
+            }
+        }
+
+        private MappedByteBuffer map() throws IOException {
+            MappedByteBuffer b = mapIfCompatible(path);
+            if (b == null) {
+                Path versioned = path.resolveSibling(
+                        path.getFileName() + "." + Long.toHexString(fingerprint) + "-" + slots);
+                b = mapIfCompatible(versioned);
+            }
+            if (b == null)
+                throw new IOException("archivo con otra versión o tamaño");
+            return b;
+        }
+
+        // Mapea el archivo si es nuevo (vacío) o ya tiene esta configuración; si no,
+        // devuelve null sin tocarlo. El mapeo sigue siendo válido al cerrar el canal.
+        private MappedByteBuffer mapIfCompatible(Path file) throws IOException {
+            int size = HEADER + slots * SLOT;
+            // FileLock es por proceso: dentro de la JVM se serializa con un monitor
+            synchronized (EvalCache.class) {
+                try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)) {
+                    FileLock lock = ch.lock();
+                    try {
+                        long current = ch.size();
+                        if (current == 0)
+                            ch.write(ByteBuffer.allocate(1), size - 1); // archivo nuevo lleno de ceros
+                        else if (current != size)
+                            return null;
+                        MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                        if (b.getLong(0) == 0) {
+                            // Recién creado (o creado por un proceso que murió antes de escribir la
+                            // cabecera): nadie lo ha mapeado todavía, porque sólo se mapea con la
+                            // cabecera válida y bajo este mismo lock.
+                            b.putLong(0, MAGIC);
+                            b.putLong(8, fingerprint);
+                            b.putInt(16, slots);
+                        }
+                        if (b.getLong(0) != MAGIC || b.getLong(8) != fingerprint || b.getInt(16) != slots)
+                            return null;
+                        return b;
+                    } finally {
+                        lock.release();
+                    }
+                }
+            }
+        }
+
+        private int slotOffset(long key) {
+            return HEADER + (int) (key & (slots - 1)) * SLOT;
+        }
+
+        private long checksum(long key2, int value, int depth, int nsteps, long move) {
+            return mix(key2 ^ fingerprint) ^ mix(((long) value << 16) ^ (depth << 8) ^ nsteps) ^ mix(move);
+        }
+
+        private static long hash(GameState g, Player p, int[] dice, long seed) {
+            long h = mix(seed + p.sign);
+            for (int v : g.points)
+                h = mix(h + v);
+            h = mix(h + g.barWhite * 16 + g.barBlack);
+            h = mix(h + g.offWhite * 16 + g.offBlack);
+            return mix(h + dice[0] * 8 + dice[1]);
+        }
+
+        private static long encode(MoveSeq ms) {
+            long code = 0;
+            for (Move m : ms.steps)
+                code = (code << 13) | ((m.from + 1) << 8) | ((m.to + 2) << 3) | m.die;
+            return code;
+        }
+
+        private static long mix(long z) {
+            // Finalizador de SplitMix64
+            z += 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+
+    // === Motor multi-partida ===
+    // SessionManager aloja muchas partidas humano-vs-IA a la vez:
+    // - Cada Session tiene su GameState, su turno, sus dados con semilla y un
+    //   presupuesto de tiempo por jugada de la IA.
+    // - Los choose() de la IA se ejecutan en un pool compartido y acotado (hilos
+    //   fijos + cola limitada); si la cola está llena la petición se rechaza.
+    // - Equidad: cada sesión tiene como mucho una búsqueda en curso o en cola y la
+    //   cola es FIFO, así que una búsqueda pesada (dobles) ocupa un solo hilo y, como
+    //   mucho, durante el presupuesto de su sesión.
+    // - abandon() saca de la cola o corta la búsqueda de esa sesión.
+    // - metrics() exporta profundidad de cola y percentiles de latencia de la IA.
+
+    static class Session {
+        final long id;
+        final Player human;
+        final MinimaxAI ai;
+        final Dice dice;
+        final long budgetNanos;
+
+        GameState state = GameState.initial();
+        Player turn = Player.WHITE; // por simplicidad, siempre empieza BLANCO (como en main)
+        int[] lastDice;
+        List<MoveSeq> humanMoves; // jugadas legales de la última tirada del humano
+        volatile boolean abandoned;
+
+        private Runnable pending; // búsqueda de la IA en cola o en curso
+        private CompletableFuture<MoveSeq> reply;
+
+        Session(long id, Player human, long seed, long budgetMs) {
+            this.id = id;
+            this.human = human;
+            this.ai = new MinimaxAI(human.opponent());
+            this.dice = new Dice(seed);
+            this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        }
+    }
+
+    static class SessionManager {
+        private final ThreadPoolExecutor pool;
+        private final EvalCache cache; // compartida por las IAs de todas las sesiones (puede ser null)
+        private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+        private final AtomicLong nextId = new AtomicLong(1);
+        private final LatencyWindow latencies = new LatencyWindow(1024);
+        private final AtomicLong completed = new AtomicLong(), truncated = new AtomicLong(),
+                rejected = new AtomicLong(), cancelled = new AtomicLong();
+
+        SessionManager(int threads, int maxQueued) {
+            this(threads, maxQueued, null);
+        }
+
+        SessionManager(int threads, int maxQueued, EvalCache cache) {
+            this.cache = cache;
+            AtomicInteger n = new AtomicInteger();
+            pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(maxQueued), r -> {
+                        Thread t = new Thread(r, "busqueda-" + n.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+        }
+
+        Session open(Player human, long seed, long budgetMs) {
+            Session s = new Session(nextId.getAndIncrement(), human, seed, budgetMs);
+            s.ai.cache = cache;
+            sessions.put(s.id, s);
+            return s;
+        }
+
+        // Tira los dados del humano y devuelve sus jugadas legales (vacía => pasa).
+        // Llamarlo otra vez antes de playHuman devuelve la misma tirada: así no se puede
+        // volver a tirar hasta que salgan buenos dados ni se gastan tiradas de la semilla.
+        List<MoveSeq> rollHuman(Session s) {
+            synchronized (s) {
+                checkTurn(s, s.human);
+                if (s.humanMoves != null)
+                    return s.humanMoves;
+                s.lastDice = s.dice.roll();
+                s.humanMoves = MoveGenerator.generateAll(s.state, s.human, s.lastDice);
+                return s.humanMoves;
+            }
+        }
+
+        // Aplica la jugada elegida (se ignora choice si no había jugadas) y lanza el
+        // turno de la IA. Si la partida terminó, devuelve un paso ya completado.
+        CompletableFuture<MoveSeq> playHuman(Session s, int choice) {
+            synchronized (s) {
+                checkTurn(s, s.human);
+                if (s.humanMoves == null)
+                    throw new IllegalStateException("sesión " + s.id + ": falta tirar los dados");
+                if (!s.humanMoves.isEmpty()) {
+                    if (choice < 0 || choice >= s.humanMoves.size())
+                        throw new IllegalArgumentException("índice de jugada fuera de rango: " + choice);
+                    s.state = applySeq(s.state, s.human, s.humanMoves.get(choice));
+                }
+                s.humanMoves = null;
+                s.turn = s.ai.me;
+                if (s.state.isTerminal())
+                    return CompletableFuture.completedFuture(new MoveSeq());
+            }
+            return playAi(s);
+        }
+
+        // Encola el turno de la IA. Los dados se tiran al empezar la búsqueda, así un
+        // rechazo por cola llena no consume tiradas y se puede reintentar.
+        CompletableFuture<MoveSeq> playAi(Session s) {
+            CompletableFuture<MoveSeq> result = new CompletableFuture<>();
+            long submitted = System.nanoTime();
+            Runnable task = () -> runAiTurn(s, submitted, result);
+            synchronized (s) {
+                checkTurn(s, s.ai.me);
+                if (s.pending != null)
+                    throw new IllegalStateException("sesión " + s.id + ": la IA ya está pensando");
+                s.pending = task;
+                s.reply = result;
+            }
+            try {
+                pool.execute(task);
+            } catch (RejectedExecutionException e) {
+                synchronized (s) {
+                    if (s.pending != task)
+                        return result; // abandon() llegó antes y ya la contó como cancelada
+                    s.pending = null;
+                    s.reply = null;
+                }
+                rejected.incrementAndGet();
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+
+        private void runAiTurn(Session s, long submitted, CompletableFuture<MoveSeq> result) {
+            MoveSeq best = null;
+            SearchLimit limit = null;
+            Throwable failure = null;
+            try {
+                if (s.abandoned)
+                    return;
+                int[] dice;
+                GameState state;
+                synchronized (s) {
+                    dice = s.dice.roll();
+                    state = s.state;
+                }
+                limit = SearchLimit.within(s.budgetNanos, () -> s.abandoned);
+                best = s.ai.choose(state, dice, limit);
+                GameState next = applySeq(state, s.ai.me, best);
+                synchronized (s) {
+                    if (s.abandoned) {
+                        best = null;
+                        return;
+                    }
+                    s.lastDice = dice;
+                    s.state = next;
+                    s.turn = s.human;
+                }
+            } catch (Throwable e) {
+                // Incluye Error (StackOverflowError, OutOfMemoryError...): la sesión no debe
+                // quedarse "pensando" para siempre.
+                failure = e;
+            } finally {
+                // Se libera antes de completar: quien espere la respuesta puede pedir otro turno
+                synchronized (s) {
+                    s.pending = null;
+                    s.reply = null;
+                }
+            }
+            if (failure != null) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            if (best == null)
+                return; // abandonada: abandon() ya canceló la respuesta
+            latencies.record(System.nanoTime() - submitted);
+            completed.incrementAndGet();
+            if (limit.stopped())
+                truncated.incrementAndGet();
+            result.complete(best);
+        }
+
+        // Cierra la sesión: si la IA estaba en cola la saca, si estaba pensando la corta.
+        void abandon(Session s) {
+            Runnable task;
+            CompletableFuture<MoveSeq> reply;
+            synchronized (s) {
+                if (s.abandoned)
+                    return;
+                s.abandoned = true;
+                task = s.pending;
+                reply = s.reply;
+            }
+            sessions.remove(s.id);
+            if (task != null) {
+                pool.remove(task);
+                cancelled.incrementAndGet();
+            }
+            if (reply != null)
+                reply.cancel(false);
+        }
+
+        Metrics metrics() {
+            Metrics m = new Metrics();
+            m.sessions = sessions.size();
+            m.queueDepth = pool.getQueue().size();
+            m.activeSearches = pool.getActiveCount();
+            m.completed = completed.get();
+            m.truncated = truncated.get();
+            m.rejected = rejected.get();
+            m.cancelled = cancelled.get();
+            m.p50Ms = latencies.percentile(0.50) / 1e6;
+            m.p95Ms = latencies.percentile(0.95) / 1e6;
+            m.p99Ms = latencies.percentile(0.99) / 1e6;
+            return m;
+        }
+
+        // Detiene el pool. Las búsquedas que seguían en cola no llegan a ejecutarse:
+        // sus respuestas se cancelan (como en abandon()) para que nadie se quede esperando.
+        // Las que ya estaban en curso terminan dentro de su presupuesto.
+        void shutdown() {
+            Set<Runnable> dropped = Collections.newSetFromMap(new IdentityHashMap<>());
+            dropped.addAll(pool.shutdownNow());
+            for (Session s : sessions.values()) {
+                CompletableFuture<MoveSeq> reply;
+                synchronized (s) {
+                    if (s.pending == null || !dropped.contains(s.pending))
+                        continue;
+                    reply = s.reply;
+                    s.pending = null;
+                    s.reply = null;
+                }
+                cancelled.incrementAndGet();
+                reply.cancel(false);
+            }
+        }
+
+        private static void checkTurn(Session s, Player expected) {
+            if (s.abandoned)
+                throw new IllegalStateException("sesión " + s.id + " abandonada");
+            if (s.state.isTerminal())
+                throw new IllegalStateException("sesión " + s.id + ": la partida ya terminó");
+            if (s.turn != expected)
+                throw new IllegalStateException("sesión " + s.id + ": no es el turno de " + expected.label);
+        }
+    }
+
+    // Instantánea de métricas del SessionManager. export() usa el formato de texto
+    // "nombre valor" (una métrica por línea) que entienden los recolectores habituales.
+    static class Metrics {
+        int sessions, queueDepth, activeSearches;
+        long completed, truncated, rejected, cancelled;
+        double p50Ms, p95Ms, p99Ms; // latencia de la IA: desde que se encola hasta que responde
+
+        String export() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("backgammon_sessions ").append(sessions).append('\n');
+            sb.append("backgammon_search_queue_depth ").append(queueDepth).append('\n');
+            sb.append("backgammon_search_active ").append(activeSearches).append('\n');
+            sb.append("backgammon_ai_moves_total ").append(completed).append('\n');
+            sb.append("backgammon_ai_moves_truncated_total ").append(truncated).append('\n');
+            sb.append("backgammon_search_rejected_total ").append(rejected).append('\n');
+            sb.append("backgammon_search_cancelled_total ").append(cancelled).append('\n');
+            sb.append(String.format(Locale.ROOT, "backgammon_move_latency_ms{quantile=\"0.5\"} %.3f\n", p50Ms));
+            sb.append(String.format(Locale.ROOT, "backgammon_move_latency_ms{quantile=\"0.95\"} %.3f\n", p95Ms));
+            sb.append(String.format(Locale.ROOT, "backgammon_move_latency_ms{quantile=\"0.99\"} %.3f\n", p99Ms));
+            return sb.toString();
+        }
+    }
+
+    // Ventana circular con las últimas N latencias (ns) para calcular percentiles.
+    static class LatencyWindow {
+        private final long[] samples;
+        private int next, size;
+
+        LatencyWindow(int capacity) {
+            samples = new long[capacity];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        synchronized long percentile(double q) {
+            if (size == 0)
+                return 0;
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int idx = (int) Math.ceil(q * size) - 1;
+            return sorted[Math.max(0, idx)];
+        }
+    }
+
+    // === Utilidades UI ===
+
     static int[] normalizeDice(int[] d) {
         if (d.length == 2 && d[0] == d[1])
             return new int[] { d[0], d[0] }; // se tratará como doble (hasta 4 movimientos)
@@ -625,13 +1182,454 @@ public class BackgammonMinimax {
         return "P" + (idx + 1);
     }
 
+    // === Corpus de regresión ===
+    // Cada línea del corpus fija una posición, los dados, la jugada que debe
+    // devolver MinimaxAI.choose y un presupuesto de latencia en milisegundos:
+    //   jugador | posición | barra W,B | off W,B | dados | presupuesto ms | jugada
+    // - posición: pares punto:fichas (punto 1..24 como idxToPoint; + blancas, - negras).
+    // - jugada: texto de MoveSeq.toString() ("(paso)" si no hay jugadas).
+    // Falla si cambia alguna jugada o si una posición supera su presupuesto, para que
+    // las optimizaciones no alteren el juego ni empeoren la velocidad sin que se note.
+    // También comprueba que EvalCache devuelve, para cada posición, la misma jugada que
+    // la búsqueda (releyendo un archivo temporal desde un mapeo nuevo).
+    // record() regraba el corpus desde partidas IA contra IA con semillas fijas; úsalo
+    // tras un cambio intencionado de la heurística o la búsqueda.
+
+    static class Regression {
+        static final int TIMED_RUNS = 3; // se toma el mejor de N tiempos para filtrar ruido
+        static final int WARMUP_PASSES = 2; // pasadas sin medir para que el JIT compile la búsqueda
+        // Presupuesto al grabar: BUDGET_FACTOR x el mejor tiempo, redondeado hacia arriba a
+        // ms, con un mínimo de MIN_BUDGET_MS (por debajo pesa más el ruido que la búsqueda).
+        static final double BUDGET_FACTOR = 2.0;
+        static final long MIN_BUDGET_MS = 10;
+        // Qué posiciones se graban de cada partida: una de cada SAMPLE_EVERY jugadas, los
+        // dobles una de cada SAMPLE_DOUBLES y como mucho MAX_PASSES turnos sin jugadas.
+        static final int SAMPLE_EVERY = 9, SAMPLE_DOUBLES = 3, MAX_PASSES = 2;
+
+        static class Case {
+            int line;
+            Player player;
+            GameState state;
+            int[] dice;
+            long budgetMs;
+            String expected;
+        }
+
+        static int run(Path corpus) throws IOException {
+            List<Case> cases = load(corpus);
+            Path cacheFile = Files.createTempFile("regresion", ".cache");
+            try {
+                // Llena la caché temporal que se revisa al final
+                EvalCache cache = new EvalCache(cacheFile, EvalCache.DEFAULT_SLOTS);
+                for (Case c : cases) {
+                    MinimaxAI ai = new MinimaxAI(c.player);
+                    ai.cache = cache;
+                    ai.choose(c.state, c.dice);
+                }
+                warmUp(cases);
+                int failures = checkSearch(cases);
+                failures += checkCache(cases, new EvalCache(cacheFile, EvalCache.DEFAULT_SLOTS));
+                System.out.println(cases.size() + " posiciones, " + failures + " fallos.");
+                return failures;
+            } finally {
+                Files.deleteIfExists(cacheFile);
+            }
+        }
+
+        private static int checkSearch(List<Case> cases) {
+            int failures = 0;
+            for (Case c : cases) {
+                MoveSeq[] move = new MoveSeq[1];
+                double millis = bestOf(c, move) / 1e6;
+                String got = move[0].toString();
+                boolean moveOk = got.equals(c.expected);
+                boolean timeOk = millis <= c.budgetMs;
+                if (moveOk && timeOk) {
+                    System.out.printf("OK    línea %d: %.1f ms (<= %d ms)\n", c.line, millis, c.budgetMs);
+                    continue;
+                }
+                failures++;
+                if (!moveOk)
+                    System.out.printf("FALLO línea %d: jugada \"%s\", se esperaba \"%s\"\n", c.line, got, c.expected);
+                if (!timeOk)
+                    System.out.printf("FALLO línea %d: %.1f ms supera el presupuesto de %d ms\n", c.line, millis,
+                            c.budgetMs);
+            }
+            return failures;
+        }
+
+        private static void warmUp(List<Case> cases) {
+            for (int pass = 0; pass < WARMUP_PASSES; pass++)
+                for (Case c : cases)
+                    new MinimaxAI(c.player).choose(c.state, c.dice);
+        }
+
+        // Mejor tiempo (ns) de TIMED_RUNS búsquedas de la posición; deja la jugada en move[0].
+        private static long bestOf(Case c, MoveSeq[] move) {
+            MinimaxAI ai = new MinimaxAI(c.player);
+            long bestNanos = Long.MAX_VALUE;
+            for (int r = 0; r < TIMED_RUNS; r++) {
+                long t0 = System.nanoTime();
+                move[0] = ai.choose(c.state, c.dice);
+                bestNanos = Math.min(bestNanos, System.nanoTime() - t0);
+            }
+            return bestNanos;
+        }
+
+        static void record(long[] seeds, Path corpus) throws IOException {
+            List<Case> cases = new ArrayList<>();
+            int passes = 0;
+            for (long seed : seeds) {
+                Dice dice = new Dice(seed);
+                GameState g = GameState.initial();
+                Player turn = Player.WHITE;
+                for (int ply = 0; !g.isTerminal(); ply++) {
+                    int[] d = dice.roll();
+                    MoveSeq best = new MinimaxAI(turn).choose(g, d);
+                    boolean pass = best.steps.isEmpty();
+                    boolean sampled = ply % SAMPLE_EVERY == 0 || (d[0] == d[1] && ply % SAMPLE_DOUBLES == 0);
+                    if ((sampled || pass) && !(pass && passes++ >= MAX_PASSES)) {
+                        Case c = new Case();
+                        c.player = turn;
+                        c.state = g;
+                        c.dice = d;
+                        c.expected = best.toString();
+                        cases.add(c);
+                    }
+                    g = applySeq(g, turn, best);
+                    turn = turn.opponent();
+                }
+            }
+            warmUp(cases);
+
+            StringBuilder seedList = new StringBuilder();
+            for (long seed : seeds)
+                seedList.append(seedList.length() > 0 ? "," : "").append(seed);
+            List<String> out = new ArrayList<>();
+            out.add("# Corpus de regresión para MinimaxAI.choose (ver BackgammonMinimax.Regression).");
+            out.add("# Grabado con: java BackgammonMinimax --grabar-corpus " + seedList);
+            out.add("# Posiciones de partidas IA contra IA con esas semillas: una de cada " + SAMPLE_EVERY
+                    + " jugadas, los dobles una de cada " + SAMPLE_DOUBLES + " y hasta " + MAX_PASSES
+                    + " turnos sin jugadas.");
+            out.add("# Presupuesto = " + BUDGET_FACTOR + " x el mejor de " + TIMED_RUNS
+                    + " tiempos en la máquina que grabó (redondeado hacia arriba a ms), mínimo " + MIN_BUDGET_MS
+                    + " ms.");
+            out.add("# Ejecutar: java BackgammonMinimax --regresion regresion.txt");
+            out.add("#");
+            out.add("# jugador | posición (punto:fichas) | barra W,B | off W,B | dados | presupuesto ms | jugada esperada");
+            for (Case c : cases) {
+                long nanos = bestOf(c, new MoveSeq[1]);
+                c.budgetMs = Math.max(MIN_BUDGET_MS, (long) Math.ceil(BUDGET_FACTOR * nanos / 1e6));
+                out.add(format(c));
+            }
+            Files.write(corpus, out);
+            System.out.println(cases.size() + " posiciones grabadas en " + corpus);
+        }
+
+        private static String format(Case c) {
+            StringBuilder sb = new StringBuilder(c.player.label).append(" |");
+            for (int i = 0; i < 24; i++)
+                if (c.state.points[i] != 0)
+                    sb.append(' ').append(i + 1).append(':').append(c.state.points[i]);
+            sb.append(" | ").append(c.state.barWhite).append(',').append(c.state.barBlack);
+            sb.append(" | ").append(c.state.offWhite).append(',').append(c.state.offBlack);
+            sb.append(" | ").append(c.dice[0]).append('-').append(c.dice[1]);
+            sb.append(" | ").append(c.budgetMs);
+            sb.append(" | ").append(c.expected);
+            return sb.toString();
+        }
+
+        private static int checkCache(List<Case> cases, EvalCache cache) {
+            int failures = 0;
+            for (Case c : cases) {
+                List<MoveSeq> legal = MoveGenerator.generateAll(c.state, c.player, normalizeDice(c.dice));
+                if (legal.isEmpty())
+                    continue; // sin jugadas no se busca ni se guarda nada
+                MoveSeq hit = cache.lookup(c.state, c.player, c.dice, legal);
+                if (hit == null) {
+                    failures++;
+                    System.out.printf("FALLO línea %d: la posición no está en la caché\n", c.line);
+                } else if (!hit.toString().equals(c.expected)) {
+                    failures++;
+                    System.out.printf("FALLO línea %d: la caché devuelve \"%s\", se esperaba \"%s\"\n", c.line,
+                            hit, c.expected);
+                }
+            }
+            return failures;
+        }
+
+        static List<Case> load(Path corpus) throws IOException {
+            List<Case> cases = new ArrayList<>();
+            List<String> lines = Files.readAllLines(corpus);
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i).trim();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+                try {
+                    cases.add(parse(line, i + 1));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException(corpus + ":" + (i + 1) + ": " + e.getMessage(), e);
+                }
+            }
+            return cases;
+        }
+
+        private static Case parse(String line, int lineNo) {
+            String[] f = line.split("\\|");
+            if (f.length != 7)
+                throw new IllegalArgumentException("se esperaban 7 campos separados por '|'");
+            Case c = new Case();
+            c.line = lineNo;
+            c.player = parsePlayer(f[0].trim());
+            c.state = new GameState();
+            for (String tok : f[1].trim().split("\\s+")) {
+                String[] kv = tok.split(":");
+                c.state.points[Integer.parseInt(kv[0]) - 1] = Integer.parseInt(kv[1]);
+            }
+            int[] bar = pair(f[2], ",");
+            c.state.barWhite = bar[0];
+            c.state.barBlack = bar[1];
+            int[] off = pair(f[3], ",");
+            c.state.offWhite = off[0];
+            c.state.offBlack = off[1];
+            c.dice = pair(f[4], "-");
+            c.budgetMs = Long.parseLong(f[5].trim());
+            c.expected = f[6].trim();
+            return c;
+        }
+
+        private static Player parsePlayer(String label) {
+            for (Player p : Player.values())
+                if (p.label.equals(label))
+                    return p;
+            throw new IllegalArgumentException("jugador desconocido: " + label);
+        }
+
+        private static int[] pair(String field, String sep) {
+            String[] parts = field.trim().split(sep);
+            if (parts.length != 2)
+                throw new IllegalArgumentException("par inválido: " + field.trim());
+            return new int[] { Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()) };
+        }
+    }
+
+    // === Prueba de carga ===
+    // Juega `games` partidas a la vez en un SessionManager, como --regresion pero para el
+    // motor multi-partida. El "humano" de cada sesión elige una jugada legal al azar (con
+    // semilla). Además del camino feliz fuerza los casos límite:
+    // - pool y cola más pequeños que el número de sesiones: hay rechazos y se reintenta.
+    // - un tercio de las sesiones con presupuesto de 1 ms: búsquedas cortadas.
+    // - una de cada cuatro sesiones se abandona en cuanto su segunda búsqueda entra en la
+    //   cola (alternando: al momento, aún en cola; o a mitad de presupuesto, ya en curso).
+    // Falla si alguna respuesta de la IA no acaba completada, cancelada o rechazada, si
+    // completadas + canceladas + rechazadas no suman las peticiones enviadas (o no
+    // coinciden con las métricas), si quedan sesiones o cola, o si algún caso no se dio.
+
+    static class LoadTest {
+        static final long BUDGET_MS = 50, TIGHT_BUDGET_MS = 1;
+        static final long RETRY_DELAY_MS = 20;
+        static final int ABANDON_AT_TURN = 2; // turno de la IA durante el que se abandona
+        static final long TIMEOUT_MINUTES = 10;
+
+        final SessionManager mgr;
+        final AtomicLong submitted = new AtomicLong();
+        final List<CompletableFuture<MoveSeq>> replies = Collections.synchronizedList(new ArrayList<>());
+
+        LoadTest(SessionManager mgr) {
+            this.mgr = mgr;
+        }
+
+        static int run(int games, long seed, EvalCache cache) throws InterruptedException {
+            // Al arrancar casi todas las sesiones piden turno de IA a la vez: con games/8
+            // hilos y games/8 de cola, una parte se rechaza seguro
+            int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), games / 8));
+            SessionManager mgr = new SessionManager(threads, Math.max(1, games / 8), cache);
+            LoadTest t = new LoadTest(mgr);
+            SplittableRandom seeds = new SplittableRandom(seed);
+            List<CompletableFuture<Void>> done = new ArrayList<>();
+            for (int i = 0; i < games; i++) {
+                Player human = (i % 2 == 0) ? Player.WHITE : Player.BLACK;
+                int abandonAt = (i % 4 == 3) ? ABANDON_AT_TURN : -1;
+                long budgetMs = (i % 3 == 2 && abandonAt < 0) ? TIGHT_BUDGET_MS : BUDGET_MS;
+                Session s = mgr.open(human, seeds.nextLong(), budgetMs);
+                SplittableRandom picks = seeds.split();
+                done.add(human == Player.WHITE ? t.humanTurn(s, picks, 0, abandonAt)
+                        : t.aiTurn(s, picks, 1, abandonAt));
+            }
+
+            int failures = 0;
+            try {
+                CompletableFuture.allOf(done.toArray(CompletableFuture<?>[]::new)).get(TIMEOUT_MINUTES,
+                        TimeUnit.MINUTES);
+            } catch (TimeoutException e) {
+                failures++;
+                System.out.println("FALLO: las partidas no terminaron en " + TIMEOUT_MINUTES + " minutos");
+            } catch (ExecutionException e) {
+                failures++;
+                System.out.println("FALLO: error en una partida: " + rootCause(e));
+            }
+
+            long completed = 0, cancelled = 0, rejected = 0;
+            List<CompletableFuture<MoveSeq>> all;
+            synchronized (t.replies) {
+                all = new ArrayList<>(t.replies);
+            }
+            for (CompletableFuture<MoveSeq> f : all) {
+                if (!f.isDone()) {
+                    failures++;
+                    System.out.println("FALLO: respuesta de la IA sin terminar");
+                } else if (f.isCancelled()) {
+                    cancelled++;
+                } else if (!f.isCompletedExceptionally()) {
+                    completed++;
+                } else {
+                    Throwable e = rootCause(f.handle((m, x) -> x).join());
+                    if (e instanceof RejectedExecutionException) {
+                        rejected++;
+                    } else {
+                        failures++;
+                        System.out.println("FALLO: respuesta de la IA con error: " + e);
+                    }
+                }
+            }
+
+            Metrics m = mgr.metrics();
+            System.out.print(m.export());
+            failures += check(completed + cancelled + rejected == t.submitted.get(), "completadas " + completed
+                    + " + canceladas " + cancelled + " + rechazadas " + rejected + " != enviadas " + t.submitted);
+            failures += check(m.completed == completed && m.cancelled == cancelled && m.rejected == rejected,
+                    "las métricas no coinciden con las respuestas observadas");
+            failures += check(m.sessions == 0, m.sessions + " sesiones siguen abiertas");
+            failures += check(m.queueDepth == 0, m.queueDepth + " búsquedas siguen en cola");
+            failures += check(rejected > 0, "ninguna petición rechazada: la cola no se llenó");
+            failures += check(cancelled > 0, "ninguna búsqueda cancelada por abandon()");
+            failures += check(m.truncated > 0, "ninguna búsqueda cortada por presupuesto");
+            mgr.shutdown();
+            System.out.println(games + " partidas, " + t.submitted + " turnos de IA, " + failures + " fallos.");
+            return failures;
+        }
+
+        private CompletableFuture<Void> aiTurn(Session s, SplittableRandom picks, int turn, int abandonAt) {
+            CompletableFuture<MoveSeq> reply;
+            try {
+                reply = mgr.playAi(s);
+            } catch (IllegalStateException e) {
+                if (s.abandoned) // abandon() llegó mientras se esperaba para reintentar
+                    return CompletableFuture.completedFuture(null);
+                throw e;
+            }
+            submitted.incrementAndGet();
+            return follow(s, picks, turn, abandonAt, reply);
+        }
+
+        private CompletableFuture<Void> follow(Session s, SplittableRandom picks, int turn, int abandonAt,
+                CompletableFuture<MoveSeq> reply) {
+            replies.add(reply);
+            if (turn == abandonAt && !reply.isDone()) {
+                long delayMs = (s.id % 2 == 0) ? 0 : BUDGET_MS / 2;
+                CompletableFuture.runAsync(() -> mgr.abandon(s),
+                        CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS));
+            }
+            return reply.handle((m, e) -> e).thenCompose(e -> {
+                if (e == null)
+                    return humanTurn(s, picks, turn, abandonAt);
+                if (rootCause(e) instanceof RejectedExecutionException) // sigue siendo turno de la IA
+                    return CompletableFuture
+                            .runAsync(() -> {
+                            }, CompletableFuture.delayedExecutor(RETRY_DELAY_MS, TimeUnit.MILLISECONDS))
+                            .thenCompose(x -> aiTurn(s, picks, turn, abandonAt));
+                return CompletableFuture.completedFuture(null); // cancelada o con error: se cuenta al final
+            });
+        }
+
+        private CompletableFuture<Void> humanTurn(Session s, SplittableRandom picks, int turn, int abandonAt) {
+            if (s.abandoned)
+                return CompletableFuture.completedFuture(null);
+            if (s.state.isTerminal()) {
+                mgr.abandon(s); // partida terminada: libera la sesión
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<MoveSeq> reply;
+            boolean ends;
+            try {
+                List<MoveSeq> moves = mgr.rollHuman(s);
+                int choice = moves.isEmpty() ? -1 : picks.nextInt(moves.size());
+                ends = !moves.isEmpty() && applySeq(s.state, s.human, moves.get(choice)).isTerminal();
+                reply = mgr.playHuman(s, choice);
+            } catch (IllegalStateException e) {
+                if (s.abandoned) // abandon() llegó entre la respuesta de la IA y esta jugada
+                    return CompletableFuture.completedFuture(null);
+                throw e;
+            }
+            if (ends) {
+                mgr.abandon(s); // ganó el humano: playHuman no encoló nada
+                return CompletableFuture.completedFuture(null);
+            }
+            submitted.incrementAndGet();
+            return follow(s, picks, turn + 1, abandonAt, reply);
+        }
+
+        private static int check(boolean ok, String message) {
+            if (ok)
+                return 0;
+            System.out.println("FALLO: " + message);
+            return 1;
+        }
+
+        private static Throwable rootCause(Throwable e) {
+            while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null)
+                e = e.getCause();
+            return e;
+        }
+    }
+
     // === Loop principal ===
     // - Pide color humano.
     // - Empieza BLANCO (simplificación).
     // - En cada turno: tirar dados, listar jugadas legales (max. dados), elegir por índice.
     // - La IA responde y se imprime de nuevo el tablero y el panel.
+    // Argumentos:
+    // - --semilla N: fija la semilla de los dados para repetir una partida.
+    // - --regresion [corpus]: ejecuta el corpus de regresión (por defecto regresion.txt).
+    // - --grabar-corpus S1,S2,... [corpus]: regraba el corpus desde partidas IA contra IA.
+    // - --carga N: juega N partidas simuladas a la vez en un SessionManager, muestra métricas
+    //   y termina con código 1 si algún chequeo de LoadTest falla.
+    // - --cache ruta: usa (o crea) la caché persistente de búsquedas en ese archivo.
+
+    // ¿El argumento siguiente a args[i] es un valor (y no otra opción "--...")?
+    private static boolean hasValue(String[] args, int i) {
+        return i + 1 < args.length && !args[i + 1].startsWith("--");
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long seed = new SplittableRandom().nextLong();
+        Path corpus = null, recordTo = null;
+        long[] recordSeeds = null;
+        int loadGames = 0;
+        EvalCache cache = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--regresion"))
+                corpus = Paths.get(hasValue(args, i) ? args[++i] : "regresion.txt");
+            else if (args[i].equals("--grabar-corpus") && i + 1 < args.length) {
+                recordSeeds = Arrays.stream(args[++i].split(",")).mapToLong(Long::parseLong).toArray();
+                recordTo = Paths.get(hasValue(args, i) ? args[++i] : "regresion.txt");
+            } else if (args[i].equals("--semilla") && i + 1 < args.length)
+                seed = Long.parseLong(args[++i]);
+            else if (args[i].equals("--carga") && i + 1 < args.length)
+                loadGames = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--cache") && i + 1 < args.length)
+                cache = new EvalCache(Paths.get(args[++i]), EvalCache.DEFAULT_SLOTS);
+        }
+        if (recordSeeds != null) {
+            Regression.record(recordSeeds, recordTo);
+            return;
+        }
+        if (corpus != null)
+            System.exit(Regression.run(corpus) == 0 ? 0 : 1);
+        if (loadGames > 0)
+            System.exit(LoadTest.run(loadGames, seed, cache) == 0 ? 0 : 1);
+        Dice diceSource = new Dice(seed);
 
-    public static void main(String[] args) {
         Scanner sc = new Scanner(System.in);
         GameState g = GameState.initial();
 
@@ -641,8 +1639,11 @@ public class BackgammonMinimax {
         Player human = (choiceColor.startsWith("N")) ? Player.BLACK : Player.WHITE;
         Player aiP = human.opponent();
         MinimaxAI ai = new MinimaxAI(aiP);
+        ai.cache = cache;
 
         System.out.println("Backgammon (Minimax profundidad 2) — Humano=" + human.label + ", IA=" + aiP.label);
+        System.out.println("Semilla de dados: " + diceSource.seed + " (usa --semilla " + diceSource.seed
+                + " para repetir la partida)");
         printBoard(g);
 
         // Nota: por simplicidad, siempre empieza BLANCO (regla oficial: ambos tiran 1
@@ -657,7 +1658,7 @@ public class BackgammonMinimax {
                     System.in.read();
                 } catch (Exception ignored) {
                 }
-                int[] dice = roll();
+                int[] dice = diceSource.roll();
                 System.out.println("Dados: " + dice[0] + "-" + dice[1]);
 
                 // Genera todas las secuencias legales que usan el máximo número de dados
@@ -686,7 +1687,7 @@ public class BackgammonMinimax {
             } else {
                 // TURNO IA ---------------------------------------------------
                 System.out.println("\nTurno IA (" + aiP.label + "). Tirando dados...");
-                int[] dice = roll();
+                int[] dice = diceSource.roll();
                 System.out.println("IA obtuvo: " + dice[0] + "-" + dice[1]);
 
                 // La IA elige la secuencia maximizando su resultado, asumiendo